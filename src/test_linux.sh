@@ -31,9 +31,22 @@ diff out ../test/output5.json
 java -ea -cp ".:../lib/json.jar" unsw/venues/VenueHireSystem < ../test/input6.json > out
 diff out ../test/output6.json
 
+# Testing Report Functionality
+java -ea -cp ".:../lib/json.jar" unsw/venues/VenueHireSystem < ../test/input7.json > out
+diff out ../test/output7.json
+
+# Testing Streaming List Filters
+java -ea -cp ".:../lib/json.jar" unsw/venues/VenueHireSystem < ../test/input8.json > out
+diff out ../test/output8.json
+
+# Testing Reused Reservation Identifications
+java -ea -cp ".:../lib/json.jar" unsw/venues/VenueHireSystem < ../test/input9.json > out
+diff out ../test/output9.json
+
+# Replay Testing
+java -ea -cp ".:../lib/json.jar" unsw/venues/ReplayHarness replay ../test/input6.json --closed --expect ../test/output6.json --output out > /dev/null || echo "Replay failed"
+diff out ../test/output6.json
+
 # Delete temporary file
 rm out
-rm unsw/venues/Reservation.class
-rm unsw/venues/Room.class
-rm unsw/venues/Venue.class
-rm unsw/venues/VenueHireSystem.class
+rm unsw/venues/*.class
@@ -0,0 +1,62 @@
+package unsw.venues;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a request or change of a reservation (status, venue, rooms)
+ * @author Kevin Chu
+ */
+public class BookingResult {
+    /**
+     * Name of the venue the rooms were booked at, null if rejected (String)
+     */
+    private final String venue;
+    /**
+     * Names of the booked rooms in order of definition (List<String>)
+     */
+    private final List<String> rooms;
+
+    /**
+     * Constructs a successful BookingResult
+     * @param venue Name of the venue the rooms were booked at (String)
+     * @param rooms Names of the booked rooms in order of definition (List<String>)
+     */
+    public BookingResult(String venue, List<String> rooms) {
+        this.venue = venue;
+        this.rooms = Collections.unmodifiableList(rooms);
+    }
+
+    /**
+     * Constructs a rejected BookingResult
+     * @return Result of a request or change which could not be fulfilled (BookingResult)
+     */
+    public static BookingResult rejected() {
+        return new BookingResult(null, Collections.emptyList());
+    }
+
+    /**
+     * Obtain whether the request or change was fulfilled
+     * @return Whether rooms were booked (boolean)
+     */
+    public boolean isSuccess() {
+        return venue != null;
+    }
+
+    /**
+     * Obtain the name of the venue the rooms were booked at
+     * @return Name of venue, null if rejected (String)
+     */
+    public String getVenue() {
+        return venue;
+    }
+
+    /**
+     * Obtain the names of the booked rooms
+     * @return Names of rooms in order of definition, empty if rejected (List<String>)
+     */
+    public List<String> getRooms() {
+        return rooms;
+    }
+
+}
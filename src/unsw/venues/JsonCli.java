@@ -0,0 +1,303 @@
+package unsw.venues;
+
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONWriter;
+
+/**
+ * Adapter executing JSON commands through a VenueHireEngine and writing their results as JSON
+ * @author Kevin Chu
+ */
+public class JsonCli {
+    /**
+     * Engine executing the commands (VenueHireEngine)
+     */
+    private final VenueHireEngine engine;
+    /**
+     * Stream which command results are written to (PrintStream)
+     */
+    private final PrintStream out;
+
+    /**
+     * Constructs a JsonCli over an engine
+     * @param engine Engine executing the commands (VenueHireEngine)
+     * @param out Stream which command results are written to (PrintStream)
+     */
+    public JsonCli(VenueHireEngine engine, PrintStream out) {
+        this.engine = engine;
+        this.out = out;
+    }
+
+    /**
+     * Parses and executes a command, waiting for it to complete and writing its result if it has one
+     * @param line Command to be executed (String - JSON object)
+     */
+    public void execute(String line) {
+        execute(new JSONObject(line));
+    }
+
+    /**
+     * Executes a command, waiting for it to complete and writing its result if it has one
+     * Commands rejected as invalid by the engine produce an error result instead
+     * @param json Command to be executed (JSONObject)
+     */
+    public void execute(JSONObject json) {
+        try {
+            processCommand(json);
+        } catch (IllegalArgumentException e) {
+            writeError(e);
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof IllegalArgumentException)) {
+                throw e;
+            }
+            writeError(e.getCause());
+        }
+    }
+
+    /**
+     * Writes the result of a command which was rejected as invalid
+     * @param error Reason the command is invalid (Throwable)
+     */
+    private void writeError(Throwable error) {
+        JSONObject result = new JSONObject();
+        result.put("status", "error");
+        result.put("error", error.getMessage());
+        out.println(result.toString());
+    }
+
+    /**
+     * Parses a command, executes it through the engine and writes its result
+     * @param json Command to be executed (JSONObject)
+     */
+    private void processCommand(JSONObject json) {
+        // For command given by user
+        switch (json.getString("command")) {
+            // If request is to create a new room
+            case "room": {
+                // Obtaining input
+                String venue = json.getString("venue");
+                String room = json.getString("room");
+                String size = json.getString("size");
+
+                // Executing command
+                engine.addRoom(venue, room, size).join();
+                break;
+            }
+            // If request is to book a room
+            case "request": {
+                // Obtaining input
+                String id = json.getString("id");
+                LocalDate start = LocalDate.parse(json.getString("start"));
+                LocalDate end = LocalDate.parse(json.getString("end"));
+                int small = json.getInt("small");
+                int medium = json.getInt("medium");
+                int large = json.getInt("large");
+
+                // Executing Command
+                BookingResult result = engine.request(id, start, end, small, medium, large).join();
+
+                // Returning result
+                out.println(toJSON(result).toString());
+                break;
+            }
+            // If request is to change a reservation
+            case "change": {
+                // Obtaining input
+                String id = json.getString("id");
+                LocalDate start = LocalDate.parse(json.getString("start"));
+                LocalDate end = LocalDate.parse(json.getString("end"));
+                int small = json.getInt("small");
+                int medium = json.getInt("medium");
+                int large = json.getInt("large");
+
+                // Executing command
+                BookingResult result = engine.change(id, start, end, small, medium, large).join();
+
+                // Returning result
+                out.println(toJSON(result).toString());
+                break;
+            }
+            // If the request is to cancel a reservation
+            case "cancel": {
+                // Obtaining input
+                String id = json.getString("id");
+
+                // Executing command
+                engine.cancel(id).join();
+                break;
+            }
+            // If the request is to list details about a venue's room and reservations
+            case "list": {
+                // Obtaining input, date range and page are optional
+                String venue = json.getString("venue");
+                LocalDate from = json.has("start") ? LocalDate.parse(json.getString("start")) : null;
+                LocalDate to = json.has("end") ? LocalDate.parse(json.getString("end")) : null;
+                int offset = json.optInt("offset", 0);
+                int limit = json.optInt("limit", Integer.MAX_VALUE);
+
+                // Executing command, streaming each reservation as it is visited once the listing is checked
+                ListWriter writer = new ListWriter(new JSONWriter(out));
+                CompletableFuture<Void> result = engine.forEachRoom(venue, from, to, offset, limit, writer);
+                result.join();
+                writer.finish();
+
+                // Ending result
+                out.println();
+                break;
+            }
+            // If the request is to report occupancy of a venue, a size or all rooms
+            case "report": {
+                // Obtaining input, venue, size and period are optional
+                String venue = json.optString("venue", null);
+                String size = json.optString("size", null);
+                LocalDate start = LocalDate.parse(json.getString("start"));
+                LocalDate end = LocalDate.parse(json.getString("end"));
+                ReportPeriod period = json.has("period") ? ReportPeriod.parse(json.getString("period")) : null;
+
+                // Executing command
+                OccupancyReport result = engine.report(venue, size, start, end, period).join();
+
+                // Returning result
+                out.println(toJSON(result).toString());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Converts the result of a request or change to JSON
+     * @param result Result of the request or change (BookingResult)
+     * @return Status and if successful, venue and room names (JSONObject)
+     */
+    private static JSONObject toJSON(BookingResult result) {
+        // Creating JSONObject
+        JSONObject json = new JSONObject();
+
+        // Request could not be fulfilled
+        if (!result.isSuccess()) {
+            json.put("status", "rejected");
+            return json;
+        }
+
+        json.put("venue", result.getVenue());
+        json.put("status", "success");
+        json.put("rooms", new JSONArray(result.getRooms()));
+
+        return json;
+    }
+
+    /**
+     * Converts an occupancy report to JSON
+     * @param report Occupancy report (OccupancyReport)
+     * @return Range, booked room days, available room days, occupancy rate and periods if split (JSONObject)
+     */
+    private static JSONObject toJSON(OccupancyReport report) {
+        // Creating JSONObject
+        JSONObject json = new JSONObject();
+
+        json.put("start", report.getStart().toString());
+        json.put("end", report.getEnd().toString());
+        json.put("booked", report.getBooked());
+        json.put("available", report.getAvailable());
+        json.put("occupancy", report.getOccupancy());
+
+        // Adding periods
+        if (report.getPeriods() != null) {
+            JSONArray periods = new JSONArray();
+            for (OccupancyReport p : report.getPeriods()) {
+                periods.put(toJSON(p));
+            }
+            json.put("periods", periods);
+        }
+
+        return json;
+    }
+
+    /**
+     * Writes the rooms and reservations of a listing as a JSON array as they are visited
+     * The array is only opened at the first room, so a listing rejected before any room is visited writes nothing
+     * Fields are in the order earlier versions' JSONObject output used, so list output is unchanged
+     */
+    private static class ListWriter implements RoomVisitor {
+        /**
+         * Writer the listing is written to (JSONWriter)
+         */
+        private final JSONWriter writer;
+        /**
+         * Whether the array has been opened (boolean)
+         */
+        private boolean opened;
+
+        /**
+         * Constructs a ListWriter
+         * @param writer Writer the listing is written to (JSONWriter)
+         */
+        private ListWriter(JSONWriter writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * Opens the array if no room has been written yet
+         */
+        private void open() {
+            if (!opened) {
+                writer.array();
+                opened = true;
+            }
+        }
+
+        /**
+         * Closes the array once every room has been visited, opening it first if the listing was empty
+         */
+        private void finish() {
+            open();
+            writer.endArray();
+        }
+
+        /**
+         * Opens a room's object and its reservations
+         * @param name Room's name (String)
+         */
+        @Override
+        public void startRoom(String name) {
+            open();
+
+            // Adding reservations of room
+            writer.object();
+            writer.key("reservations");
+            writer.array();
+        }
+
+        /**
+         * Writes a reservation's details as a JSON object
+         * @param reservation Details of the reservation (ReservationDetails)
+         */
+        @Override
+        public void visitReservation(ReservationDetails reservation) {
+            writer.object();
+            writer.key("start").value(reservation.getStart().toString());
+            writer.key("end").value(reservation.getEnd().toString());
+            writer.key("id").value(reservation.getId());
+            writer.endObject();
+        }
+
+        /**
+         * Closes a room's reservations and object after adding its name
+         * @param name Room's name (String)
+         */
+        @Override
+        public void endRoom(String name) {
+            writer.endArray();
+
+            // Adding room details
+            writer.key("room").value(name);
+            writer.endObject();
+        }
+    }
+
+}
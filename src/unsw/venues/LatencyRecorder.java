@@ -0,0 +1,159 @@
+package unsw.venues;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+import org.json.JSONObject;
+
+/**
+ * Latency samples of replayed commands grouped by command type
+ * @author Kevin Chu
+ */
+public class LatencyRecorder {
+    /**
+     * Percentiles reported for every command type
+     */
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    /**
+     * Initial capacity of each command type's samples
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Latency samples in nanoseconds referenced by command type (LinkedHashMap<String, Samples>)
+     */
+    private LinkedHashMap<String, Samples> samples;
+
+    /**
+     * Constructs an empty LatencyRecorder
+     */
+    public LatencyRecorder() {
+        samples = new LinkedHashMap<String, Samples>();
+    }
+
+    /**
+     * Records the latency of a single command
+     * @param command Type of command (String - room, request, change, cancel, list, report)
+     * @param nanos Latency of the command in nanoseconds (long)
+     */
+    public void record(String command, long nanos) {
+        // Creating samples for a new command type
+        Samples commandSamples = samples.get(command);
+        if (commandSamples == null) {
+            commandSamples = new Samples();
+            samples.put(command, commandSamples);
+        }
+
+        commandSamples.add(nanos);
+    }
+
+    /**
+     * Obtain the command types which have been recorded
+     * @return Command types in order of first appearance (Set<String>)
+     */
+    public Set<String> getCommands() {
+        return samples.keySet();
+    }
+
+    /**
+     * Obtain a latency percentile of a command type
+     * @param command Type of command (String)
+     * @param percentile Percentile between 0 and 100 (double)
+     * @return Latency at the percentile in nanoseconds, 0 if no samples were recorded (long)
+     */
+    public long percentile(String command, double percentile) {
+        Samples commandSamples = samples.get(command);
+        if (commandSamples == null || commandSamples.count == 0) {
+            return 0;
+        }
+        commandSamples.sort();
+
+        // Nearest-rank percentile
+        int rank = (int) Math.ceil(percentile / 100 * commandSamples.count);
+        return commandSamples.values[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Obtain a summary of all command types (count, percentiles and max in microseconds)
+     * @return Summary referenced by command type (JSONObject)
+     */
+    public JSONObject getSummary() {
+        JSONObject result = new JSONObject();
+
+        // For all command types
+        for (String command : samples.keySet()) {
+            JSONObject details = new JSONObject();
+            details.put("count", samples.get(command).count);
+            for (double p : PERCENTILES) {
+                details.put(percentileName(p), toMicros(percentile(command, p)));
+            }
+            details.put("max", toMicros(percentile(command, 100)));
+            result.put(command, details);
+        }
+
+        return result;
+    }
+
+    /**
+     * Converts a percentile into its summary key (e.g. 99.9 to p99.9)
+     * @param percentile Percentile between 0 and 100 (double)
+     * @return Key of the percentile (String)
+     */
+    public static String percentileName(double percentile) {
+        if (percentile == Math.rint(percentile)) {
+            return "p" + (long) percentile;
+        }
+        return "p" + percentile;
+    }
+
+    /**
+     * Converts nanoseconds to microseconds
+     * @param nanos Duration in nanoseconds (long)
+     * @return Duration in microseconds (double)
+     */
+    private static double toMicros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    /**
+     * Growable array of unboxed samples so recording does not allocate per sample
+     */
+    private static class Samples {
+        /**
+         * Samples in nanoseconds, only the first count are used (long[])
+         */
+        private long[] values = new long[INITIAL_CAPACITY];
+        /**
+         * Amount of samples recorded (int)
+         */
+        private int count;
+        /**
+         * Whether the used samples are sorted (boolean)
+         */
+        private boolean sorted = true;
+
+        /**
+         * Adds a sample, doubling the array when full
+         * @param nanos Latency in nanoseconds (long)
+         */
+        private void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+            sorted = false;
+        }
+
+        /**
+         * Sorts the samples if a sample was added since they were last sorted
+         */
+        private void sort() {
+            if (!sorted) {
+                Arrays.sort(values, 0, count);
+                sorted = true;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+package unsw.venues;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+
+/**
+ * Booked room days and room counts of the hiring system, aggregated per venue, per size,
+ * per venue and size and in total so that occupancy of any date range is obtained in logarithmic time
+ * @author Kevin Chu
+ */
+public class Occupancy {
+    /**
+     * Aggregate of all venues and sizes (Aggregate)
+     */
+    private Aggregate total;
+    /**
+     * Aggregates referenced by venue name (HashMap<String, Aggregate>)
+     */
+    private HashMap<String, Aggregate> byVenue;
+    /**
+     * Aggregates referenced by room size (HashMap<String, Aggregate>)
+     */
+    private HashMap<String, Aggregate> bySize;
+    /**
+     * Aggregates referenced by venue name then room size (HashMap<String, HashMap<String, Aggregate>>)
+     */
+    private HashMap<String, HashMap<String, Aggregate>> byVenueSize;
+
+    /**
+     * Constructs an empty Occupancy
+     */
+    public Occupancy() {
+        total = new Aggregate();
+        byVenue = new HashMap<String, Aggregate>();
+        bySize = new HashMap<String, Aggregate>();
+        byVenueSize = new HashMap<String, HashMap<String, Aggregate>>();
+    }
+
+    /**
+     * Counts a new room of a venue
+     * @param venue Name of venue (String)
+     * @param size Size of room (String - small, medium, large)
+     */
+    public void addRoom(String venue, String size) {
+        getAggregate(venue, size, true).rooms++;
+        getAggregate(venue, null, true).rooms++;
+        getAggregate(null, size, true).rooms++;
+        total.rooms++;
+    }
+
+    /**
+     * Adds a booking of a room from start date to end date (inclusive)
+     * @param venue Name of room's venue (String)
+     * @param size Size of room (String)
+     * @param start Start date of booking (LocalDate)
+     * @param end End date of booking (LocalDate)
+     */
+    public void book(String venue, String size, LocalDate start, LocalDate end) {
+        update(venue, size, start, end, 1);
+    }
+
+    /**
+     * Removes a booking of a room from start date to end date (inclusive)
+     * @param venue Name of room's venue (String)
+     * @param size Size of room (String)
+     * @param start Start date of booking (LocalDate)
+     * @param end End date of booking (LocalDate)
+     */
+    public void unbook(String venue, String size, LocalDate start, LocalDate end) {
+        update(venue, size, start, end, -1);
+    }
+
+    /**
+     * Obtain the amount of booked room days from start date to end date (inclusive)
+     * @param venue Name of venue, null for all venues (String)
+     * @param size Size of rooms, null for all sizes (String)
+     * @param start Start date of range (LocalDate)
+     * @param end End date of range (LocalDate)
+     * @return Booked room days (long)
+     */
+    public long getBooked(String venue, String size, LocalDate start, LocalDate end) {
+        Aggregate aggregate = getAggregate(venue, size, false);
+
+        // No room of the venue and size exists
+        if (aggregate == null) {
+            return 0;
+        }
+
+        return aggregate.booked.sum(start, end);
+    }
+
+    /**
+     * Obtain the amount of rooms
+     * @param venue Name of venue, null for all venues (String)
+     * @param size Size of rooms, null for all sizes (String)
+     * @return Amount of rooms (int)
+     */
+    public int getRooms(String venue, String size) {
+        Aggregate aggregate = getAggregate(venue, size, false);
+        return aggregate == null ? 0 : aggregate.rooms;
+    }
+
+    /**
+     * Adds an amount of rooms to every aggregate containing a venue and size
+     * @param venue Name of room's venue (String)
+     * @param size Size of room (String)
+     * @param start Start date of booking (LocalDate)
+     * @param end End date of booking (LocalDate)
+     * @param amount Amount of rooms booked per day (int)
+     */
+    private void update(String venue, String size, LocalDate start, LocalDate end, int amount) {
+        getAggregate(venue, size, true).booked.add(start, end, amount);
+        getAggregate(venue, null, true).booked.add(start, end, amount);
+        getAggregate(null, size, true).booked.add(start, end, amount);
+        total.booked.add(start, end, amount);
+    }
+
+    /**
+     * Obtain the aggregate of a venue and size
+     * @param venue Name of venue, null for all venues (String)
+     * @param size Size of rooms, null for all sizes (String)
+     * @param create Whether a missing aggregate is created (boolean)
+     * @return Aggregate of the venue and size, null if it does not exist and is not created (Aggregate)
+     */
+    private Aggregate getAggregate(String venue, String size, boolean create) {
+        if (venue == null && size == null) {
+            return total;
+        }
+        if (venue == null) {
+            return getOrCreate(bySize, size, create);
+        }
+        if (size == null) {
+            return getOrCreate(byVenue, venue, create);
+        }
+
+        HashMap<String, Aggregate> sizes = byVenueSize.get(venue);
+        if (sizes == null) {
+            if (!create) {
+                return null;
+            }
+            sizes = new HashMap<String, Aggregate>();
+            byVenueSize.put(venue, sizes);
+        }
+        return getOrCreate(sizes, size, create);
+    }
+
+    /**
+     * Obtain an aggregate from a map
+     * @param aggregates Aggregates referenced by name (HashMap<String, Aggregate>)
+     * @param key Name of aggregate (String)
+     * @param create Whether a missing aggregate is created (boolean)
+     * @return Aggregate with name key, null if it does not exist and is not created (Aggregate)
+     */
+    private static Aggregate getOrCreate(HashMap<String, Aggregate> aggregates, String key, boolean create) {
+        if (create) {
+            return aggregates.computeIfAbsent(key, k -> new Aggregate());
+        }
+        return aggregates.get(key);
+    }
+
+    /**
+     * Amount of rooms and booked rooms per day of a group of rooms
+     */
+    private static class Aggregate {
+        /**
+         * Booked rooms per day (RangeSegmentTree)
+         */
+        private RangeSegmentTree booked = new RangeSegmentTree();
+        /**
+         * Amount of rooms (int)
+         */
+        private int rooms;
+    }
+
+}
@@ -0,0 +1,97 @@
+package unsw.venues;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Occupancy of rooms over a date range (start, end, booked and available room days, periods)
+ * @author Kevin Chu
+ */
+public class OccupancyReport {
+    /**
+     * Start date of range (LocalDate)
+     */
+    private final LocalDate start;
+    /**
+     * End date of range (LocalDate)
+     */
+    private final LocalDate end;
+    /**
+     * Booked room days in range (long)
+     */
+    private final long booked;
+    /**
+     * Available room days in range (long)
+     */
+    private final long available;
+    /**
+     * Occupancy of each period of the range, null if not split into periods (List<OccupancyReport>)
+     */
+    private final List<OccupancyReport> periods;
+
+    /**
+     * Constructs an OccupancyReport
+     * @param start Start date of range (LocalDate)
+     * @param end End date of range (LocalDate)
+     * @param booked Booked room days in range (long)
+     * @param available Available room days in range (long)
+     * @param periods Occupancy of each period of the range, null if not split into periods (List<OccupancyReport>)
+     */
+    public OccupancyReport(LocalDate start, LocalDate end, long booked, long available, List<OccupancyReport> periods) {
+        this.start = start;
+        this.end = end;
+        this.booked = booked;
+        this.available = available;
+        this.periods = periods == null ? null : Collections.unmodifiableList(periods);
+    }
+
+    /**
+     * Obtain the start date of the range
+     * @return Start date of range (LocalDate)
+     */
+    public LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * Obtain the end date of the range
+     * @return End date of range (LocalDate)
+     */
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    /**
+     * Obtain the booked room days of the range
+     * @return Booked room days (long)
+     */
+    public long getBooked() {
+        return booked;
+    }
+
+    /**
+     * Obtain the available room days of the range
+     * @return Available room days (long)
+     */
+    public long getAvailable() {
+        return available;
+    }
+
+    /**
+     * Obtain the occupancy rate of the range
+     * @return Booked room days divided by available room days, 0 if there are no rooms (double)
+     */
+    public double getOccupancy() {
+        return available == 0 ? 0 : (double) booked / available;
+    }
+
+    /**
+     * Obtain the occupancy of each period of the range
+     * @return Occupancy of each period, null if not split into periods (List<OccupancyReport>)
+     */
+    public List<OccupancyReport> getPeriods() {
+        return periods;
+    }
+
+}
@@ -0,0 +1,263 @@
+package unsw.venues;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Segment tree over days supporting adding to every day of a date range and summing a date range,
+ * both in time logarithmic in the span of dates which have been updated
+ * The root grows to cover only the dates in use and nodes are allocated lazily in primitive arrays,
+ * so any LocalDate can be used while memory stays proportional to the current bookings
+ * @author Kevin Chu
+ */
+public class RangeSegmentTree {
+    /**
+     * Index of the absent node, nodes are numbered from 1
+     */
+    private static final int NONE = 0;
+    /**
+     * Epoch day of the first index, so every date has a non-negative index and a single aligned root can
+     * cover dates on both sides of the epoch
+     */
+    private static final long OFFSET = LocalDate.MIN.toEpochDay();
+
+    /**
+     * Left child of each node, or the next free node for freed nodes (int[])
+     */
+    private int[] left;
+    /**
+     * Right child of each node (int[])
+     */
+    private int[] right;
+    /**
+     * Sum of every day covered by each node (long[])
+     */
+    private long[] sum;
+    /**
+     * Amount added to every day covered by each node and not included in its children (long[])
+     */
+    private long[] added;
+    /**
+     * Amount of nodes ever allocated (int)
+     */
+    private int allocated;
+    /**
+     * First freed node, NONE if no node is free (int)
+     */
+    private int free;
+    /**
+     * Root node, NONE if the tree is empty (int)
+     */
+    private int root;
+    /**
+     * First index covered by the root, a multiple of rootSize (long)
+     */
+    private long rootStart;
+    /**
+     * Amount of days covered by the root, a power of two (long)
+     */
+    private long rootSize;
+
+    /**
+     * Constructs an empty RangeSegmentTree
+     */
+    public RangeSegmentTree() {
+        left = new int[16];
+        right = new int[16];
+        sum = new long[16];
+        added = new long[16];
+    }
+
+    /**
+     * Adds an amount to every day from start date to end date (inclusive)
+     * Intermediate sums may overflow, but as long arithmetic wraps the results of sum are still exact
+     * @param start Start date of range (LocalDate)
+     * @param end End date of range (LocalDate)
+     * @param amount Amount to add to each day (long)
+     */
+    public void add(LocalDate start, LocalDate end, long amount) {
+        long first = toIndex(start);
+        long last = toIndex(end);
+
+        // Growing the root until it covers the range
+        if (root == NONE) {
+            root = allocate();
+            rootStart = first;
+            rootSize = 1;
+        }
+        while (first < rootStart || last > rootStart + rootSize - 1) {
+            long size = rootSize * 2;
+            long parentStart = rootStart / size * size;
+            int parent = allocate();
+            if (parentStart == rootStart) {
+                left[parent] = root;
+            } else {
+                right[parent] = root;
+            }
+            sum[parent] = sum[root];
+            root = parent;
+            rootStart = parentStart;
+            rootSize = size;
+        }
+
+        update(root, rootStart, rootStart + rootSize - 1, first, last, amount);
+
+        // Releasing the root so the next range sizes the tree again
+        if (isEmpty(root)) {
+            release(root);
+            root = NONE;
+        }
+    }
+
+    /**
+     * Sums every day from start date to end date (inclusive)
+     * @param start Start date of range (LocalDate)
+     * @param end End date of range (LocalDate)
+     * @return Sum of the amounts of each day in the range (long)
+     */
+    public long sum(LocalDate start, LocalDate end) {
+        if (root == NONE) {
+            return 0;
+        }
+
+        // Days outside the root have never been updated
+        long first = Math.max(toIndex(start), rootStart);
+        long last = Math.min(toIndex(end), rootStart + rootSize - 1);
+        if (first > last) {
+            return 0;
+        }
+
+        return query(root, rootStart, rootStart + rootSize - 1, first, last);
+    }
+
+    /**
+     * Adds an amount to every day of a range within a node, allocating and releasing its descendants as needed
+     * @param node Node covering nodeFirst to nodeLast (int)
+     * @param nodeFirst First index covered by node (long)
+     * @param nodeLast Last index covered by node (long)
+     * @param first First index of range, at least nodeFirst (long)
+     * @param last Last index of range, at most nodeLast (long)
+     * @param amount Amount to add to each day (long)
+     */
+    private void update(int node, long nodeFirst, long nodeLast, long first, long last, long amount) {
+        sum[node] += amount * (last - first + 1);
+
+        // Range covers the whole node
+        if (first == nodeFirst && last == nodeLast) {
+            added[node] += amount;
+            return;
+        }
+
+        long middle = nodeFirst + (nodeLast - nodeFirst) / 2;
+        if (first <= middle) {
+            int child = left[node];
+            if (child == NONE) {
+                // Allocating first as it may replace the arrays
+                child = allocate();
+                left[node] = child;
+            }
+            update(child, nodeFirst, middle, first, Math.min(last, middle), amount);
+
+            // Removing empty nodes so memory stays proportional to current bookings
+            if (isEmpty(child)) {
+                release(child);
+                left[node] = NONE;
+            }
+        }
+        if (last > middle) {
+            int child = right[node];
+            if (child == NONE) {
+                // Allocating first as it may replace the arrays
+                child = allocate();
+                right[node] = child;
+            }
+            update(child, middle + 1, nodeLast, Math.max(first, middle + 1), last, amount);
+
+            // Removing empty nodes so memory stays proportional to current bookings
+            if (isEmpty(child)) {
+                release(child);
+                right[node] = NONE;
+            }
+        }
+    }
+
+    /**
+     * Sums every day of a range within a node
+     * @param node Node covering nodeFirst to nodeLast, NONE if no day it covers has been updated (int)
+     * @param nodeFirst First index covered by node (long)
+     * @param nodeLast Last index covered by node (long)
+     * @param first First index of range, at least nodeFirst (long)
+     * @param last Last index of range, at most nodeLast (long)
+     * @return Sum of the amounts of each day in the range (long)
+     */
+    private long query(int node, long nodeFirst, long nodeLast, long first, long last) {
+        if (node == NONE) {
+            return 0;
+        }
+
+        // Range covers the whole node
+        if (first == nodeFirst && last == nodeLast) {
+            return sum[node];
+        }
+
+        long result = added[node] * (last - first + 1);
+        long middle = nodeFirst + (nodeLast - nodeFirst) / 2;
+        if (first <= middle) {
+            result += query(left[node], nodeFirst, middle, first, Math.min(last, middle));
+        }
+        if (last > middle) {
+            result += query(right[node], middle + 1, nodeLast, Math.max(first, middle + 1), last);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a node and its descendants hold no amounts
+     * @param node Node to check (int)
+     * @return Whether the node can be released (boolean)
+     */
+    private boolean isEmpty(int node) {
+        return sum[node] == 0 && added[node] == 0 && left[node] == NONE && right[node] == NONE;
+    }
+
+    /**
+     * Obtains an empty node, reusing a freed node if there is one
+     * @return Index of the node (int)
+     */
+    private int allocate() {
+        int node;
+        if (free != NONE) {
+            node = free;
+            free = left[node];
+            left[node] = NONE;
+        } else {
+            node = ++allocated;
+            if (node == left.length) {
+                left = Arrays.copyOf(left, node * 2);
+                right = Arrays.copyOf(right, node * 2);
+                sum = Arrays.copyOf(sum, node * 2);
+                added = Arrays.copyOf(added, node * 2);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Frees an empty node without children for reuse
+     * @param node Index of the node (int)
+     */
+    private void release(int node) {
+        left[node] = free;
+        free = node;
+    }
+
+    /**
+     * Converts a date to its index in the tree
+     * @param date Date to convert (LocalDate)
+     * @return Index of the date, 0 for LocalDate.MIN (long)
+     */
+    private static long toIndex(LocalDate date) {
+        return date.toEpochDay() - OFFSET;
+    }
+
+}
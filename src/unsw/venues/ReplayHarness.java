@@ -0,0 +1,388 @@
+package unsw.venues;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Records command streams with arrival times and replays them against the hiring system,
+ * reporting latency percentiles per command type
+ *
+ * Usage:
+ *   ReplayHarness record recording.json < input.json
+ *   ReplayHarness replay recording.json [--closed | --rate factor] [--expect outputs.json]
+ *       [--output outputs.json] [--baseline baseline.json] [--threshold fraction] [--save-baseline baseline.json]
+ *
+ * Open-loop replays (the default) issue each command at its recorded arrival time divided by the rate
+ * factor and measure latency from that intended time rather than from when the command was actually
+ * issued, so time spent queued behind a slow command is not omitted. Closed-loop replays issue
+ * commands back to back and measure service time only.
+ * @author Kevin Chu
+ */
+public class ReplayHarness {
+    /**
+     * Exit status when outputs differ or latency regresses
+     */
+    private static final int EXIT_FAILURE = 1;
+    /**
+     * Exit status when arguments are invalid
+     */
+    private static final int EXIT_USAGE = 2;
+    /**
+     * Waits longer than this are slept, shorter waits are spun (nanoseconds)
+     */
+    private static final long SPIN_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Arrival time of each recorded command in microseconds since recording started
+     */
+    private ArrayList<Long> arrivals;
+    /**
+     * Recorded commands in arrival order
+     */
+    private ArrayList<JSONObject> commands;
+
+    /**
+     * Constructs a harness from the lines of a recording
+     * Lines are either recorded commands ({ "at": micros, "command": command }) or plain commands,
+     * which are treated as arriving together with the previous command
+     * @param lines Lines of the recording (List<String>)
+     */
+    public ReplayHarness(List<String> lines) {
+        arrivals = new ArrayList<Long>();
+        commands = new ArrayList<JSONObject>();
+
+        long previous = 0;
+        for (String line : lines) {
+            if (line.trim().equals("")) {
+                continue;
+            }
+
+            JSONObject json = new JSONObject(line);
+            if (json.has("at") && json.has("command") && json.get("command") instanceof JSONObject) {
+                // Recorded command
+                previous = json.getLong("at");
+                commands.add(json.getJSONObject("command"));
+            } else {
+                // Plain command
+                commands.add(json);
+            }
+            arrivals.add(previous);
+        }
+    }
+
+    /**
+     * Replays the recording against a new hiring system through the same JsonCli and VenueHireEngine as STDIN
+     * @param closedLoop Whether commands are issued back to back instead of at their arrival times (boolean)
+     * @param rate Factor to speed up arrival times by for open-loop replays (double)
+     * @param latencies Recorder which command latencies are added to (LatencyRecorder)
+     * @return Output of the hiring system, one result per line (String)
+     */
+    public String replay(boolean closedLoop, double rate, LatencyRecorder latencies) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (VenueHireEngine engine = new VenueHireEngine()) {
+            JsonCli cli = new JsonCli(engine, new PrintStream(output, false));
+
+            long start = System.nanoTime();
+            for (int i = 0; i < commands.size(); i++) {
+                JSONObject command = commands.get(i);
+
+                // Time the command should be issued at
+                long issued;
+                if (closedLoop) {
+                    issued = System.nanoTime();
+                } else {
+                    issued = start + (long) (TimeUnit.MICROSECONDS.toNanos(arrivals.get(i)) / rate);
+                    waitUntil(issued);
+                }
+
+                cli.execute(command);
+                latencies.record(command.getString("command"), System.nanoTime() - issued);
+            }
+        }
+
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Waits until System.nanoTime() reaches a deadline, returning immediately if it has passed
+     * @param deadline Deadline as given by System.nanoTime() (long)
+     */
+    private static void waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            if (remaining > SPIN_THRESHOLD) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(remaining - SPIN_THRESHOLD);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Compares the output of a replay with the output of a reference run
+     * Results are compared as JSON so that the ordering of fields may differ
+     * @param actual Output of the replay (String)
+     * @param expected Output of the reference run (String)
+     * @return Description of the first difference, null if outputs are equivalent (String)
+     */
+    public static String compareOutputs(String actual, String expected) {
+        List<String> actualLines = nonEmptyLines(actual);
+        List<String> expectedLines = nonEmptyLines(expected);
+
+        for (int i = 0; i < Math.min(actualLines.size(), expectedLines.size()); i++) {
+            if (!sameResult(actualLines.get(i), expectedLines.get(i))) {
+                return "result " + (i + 1) + " differs\n  expected: " + expectedLines.get(i)
+                        + "\n  actual:   " + actualLines.get(i);
+            }
+        }
+
+        if (actualLines.size() != expectedLines.size()) {
+            return "expected " + expectedLines.size() + " results but got " + actualLines.size();
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if two results are the same JSON value
+     * @param actual Result of the replay (String)
+     * @param expected Result of the reference run (String)
+     * @return Whether the results are equivalent (boolean)
+     */
+    private static boolean sameResult(String actual, String expected) {
+        if (expected.trim().startsWith("[")) {
+            return actual.trim().startsWith("[") && new JSONArray(expected).similar(new JSONArray(actual));
+        }
+        return actual.trim().startsWith("{") && new JSONObject(expected).similar(new JSONObject(actual));
+    }
+
+    /**
+     * Compares the p99 latency of each command type against a baseline summary
+     * @param latencies Latencies of the replay (LatencyRecorder)
+     * @param baseline Summary of a previous replay, as given by LatencyRecorder.getSummary() (JSONObject)
+     * @param threshold Allowed fractional increase over the baseline p99 (double)
+     * @return Descriptions of the command types which regressed (ArrayList<String>)
+     */
+    public static ArrayList<String> findRegressions(LatencyRecorder latencies, JSONObject baseline, double threshold) {
+        ArrayList<String> result = new ArrayList<String>();
+        String key = LatencyRecorder.percentileName(99);
+
+        // For all replayed command types present in the baseline
+        for (String command : latencies.getCommands()) {
+            if (!baseline.has(command)) {
+                continue;
+            }
+
+            double previous = baseline.getJSONObject(command).getDouble(key);
+            double current = latencies.percentile(command, 99) / 1000.0;
+            if (current > previous * (1 + threshold)) {
+                result.add(String.format("%s %s regressed from %.1fus to %.1fus", command, key, previous, current));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Prints a table of latency percentiles per command type
+     * @param summary Summary as given by LatencyRecorder.getSummary() (JSONObject)
+     */
+    private static void printSummary(JSONObject summary) {
+        System.out.println(String.format("%-10s %8s %12s %12s %12s %12s %12s",
+                "command", "count", "p50(us)", "p90(us)", "p99(us)", "p99.9(us)", "max(us)"));
+        for (String command : summary.keySet()) {
+            JSONObject details = summary.getJSONObject(command);
+            System.out.println(String.format("%-10s %8d %12.1f %12.1f %12.1f %12.1f %12.1f", command,
+                    details.getInt("count"), details.getDouble("p50"), details.getDouble("p90"),
+                    details.getDouble("p99"), details.getDouble("p99.9"), details.getDouble("max")));
+        }
+    }
+
+    /**
+     * Splits text into its non-empty lines
+     * @param text Text to split (String)
+     * @return Lines containing more than whitespace (List<String>)
+     */
+    private static List<String> nonEmptyLines(String text) {
+        ArrayList<String> result = new ArrayList<String>();
+        for (String line : text.split("\\R")) {
+            if (!line.trim().equals("")) {
+                result.add(line);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads commands from STDIN like VenueHireSystem while recording them with their arrival times
+     * @param recordingPath File to write the recording to (String)
+     * @throws IOException If the recording cannot be written
+     */
+    private static void record(String recordingPath) throws IOException {
+        try (PrintWriter recording = new PrintWriter(Files.newBufferedWriter(Paths.get(recordingPath)));
+                VenueHireEngine engine = new VenueHireEngine(); Scanner sc = new Scanner(System.in)) {
+            JsonCli cli = new JsonCli(engine, System.out);
+            long start = System.nanoTime();
+
+            while (sc.hasNextLine()) {
+                String line = sc.nextLine();
+                if (!line.trim().equals("")) {
+                    JSONObject command = new JSONObject(line);
+
+                    // Recording command before processing so its arrival time is not delayed
+                    JSONObject recorded = new JSONObject();
+                    recorded.put("at", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                    recorded.put("command", command);
+                    recording.println(recorded.toString());
+                    recording.flush();
+
+                    cli.execute(command);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replays a recording and reports latencies, failing on output differences or latency regressions
+     * @param args Recording path followed by replay options
+     * @return Exit status (int)
+     * @throws IOException If a file cannot be read or written
+     */
+    private static int replay(String[] args) throws IOException {
+        boolean closedLoop = false;
+        double rate = 1;
+        double threshold = 0.1;
+        String expectPath = null;
+        String outputPath = null;
+        String baselinePath = null;
+        String saveBaselinePath = null;
+
+        // Parsing options
+        for (int i = 2; i < args.length; i++) {
+            String option = args[i];
+
+            // Every option other than --closed is followed by its value
+            String value = null;
+            if (!option.equals("--closed")) {
+                if (i + 1 >= args.length) {
+                    System.err.println("Missing value for option " + option);
+                    return EXIT_USAGE;
+                }
+                value = args[++i];
+            }
+
+            try {
+                switch (option) {
+                    case "--closed":
+                        closedLoop = true;
+                        break;
+                    case "--rate":
+                        rate = Double.parseDouble(value);
+                        break;
+                    case "--threshold":
+                        threshold = Double.parseDouble(value);
+                        break;
+                    case "--expect":
+                        expectPath = value;
+                        break;
+                    case "--output":
+                        outputPath = value;
+                        break;
+                    case "--baseline":
+                        baselinePath = value;
+                        break;
+                    case "--save-baseline":
+                        saveBaselinePath = value;
+                        break;
+                    default:
+                        System.err.println("Unknown option " + option);
+                        return EXIT_USAGE;
+                }
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid value " + value + " for option " + option);
+                return EXIT_USAGE;
+            }
+        }
+        if (!(rate > 0) || Double.isInfinite(rate)) {
+            System.err.println("Rate must be positive and finite");
+            return EXIT_USAGE;
+        }
+        if (!(threshold >= 0) || Double.isInfinite(threshold)) {
+            System.err.println("Threshold must not be negative and must be finite");
+            return EXIT_USAGE;
+        }
+
+        // Replaying recording
+        ReplayHarness harness = new ReplayHarness(Files.readAllLines(Paths.get(args[1])));
+        LatencyRecorder latencies = new LatencyRecorder();
+        String output = harness.replay(closedLoop, rate, latencies);
+        JSONObject summary = latencies.getSummary();
+        printSummary(summary);
+
+        if (outputPath != null) {
+            Files.write(Paths.get(outputPath), output.getBytes(StandardCharsets.UTF_8));
+        }
+        if (saveBaselinePath != null) {
+            Files.write(Paths.get(saveBaselinePath), summary.toString(2).getBytes(StandardCharsets.UTF_8));
+        }
+
+        int status = 0;
+
+        // Checking output equivalence
+        if (expectPath != null) {
+            String expected = new String(Files.readAllBytes(Paths.get(expectPath)), StandardCharsets.UTF_8);
+            String difference = compareOutputs(output, expected);
+            if (difference != null) {
+                System.err.println("Output mismatch: " + difference);
+                status = EXIT_FAILURE;
+            }
+        }
+
+        // Checking latency regressions
+        if (baselinePath != null) {
+            String baseline = new String(Files.readAllBytes(Paths.get(baselinePath)), StandardCharsets.UTF_8);
+            for (String regression : findRegressions(latencies, new JSONObject(baseline), threshold)) {
+                System.err.println("Latency regression: " + regression);
+                status = EXIT_FAILURE;
+            }
+        }
+
+        return status;
+    }
+
+    /**
+     * Records or replays a command stream
+     * @param args Mode (record or replay), recording path and replay options
+     * @throws IOException If a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("record")) {
+            record(args[1]);
+        } else if (args.length >= 2 && args[0].equals("replay")) {
+            System.exit(replay(args));
+        } else {
+            System.err.println("Usage: ReplayHarness record <recording> | replay <recording> [options]");
+            System.exit(EXIT_USAGE);
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package unsw.venues;
+
+/**
+ * Length of the periods an occupancy report is split into
+ * @author Kevin Chu
+ */
+public enum ReportPeriod {
+    DAY(1),
+    WEEK(7);
+
+    /**
+     * Amount of days in a period (int)
+     */
+    private final int days;
+
+    /**
+     * Constructs a ReportPeriod
+     * @param days Amount of days in a period (int)
+     */
+    ReportPeriod(int days) {
+        this.days = days;
+    }
+
+    /**
+     * Obtain the amount of days in a period
+     * @return Amount of days (int)
+     */
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * Obtain the period with a name as given in commands
+     * @param name Name of period (String - day, week)
+     * @return Period with the name (ReportPeriod)
+     * @throws IllegalArgumentException If no period has the name
+     */
+    public static ReportPeriod parse(String name) {
+        for (ReportPeriod p : values()) {
+            if (p.name().toLowerCase().equals(name)) {
+                return p;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report period: " + name);
+    }
+
+}
@@ -2,7 +2,6 @@ package unsw.venues;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
 
 /**
  * Details about a reservation (id, start, end, rooms)
@@ -73,19 +72,19 @@ public class Reservation {
     }
 
     /**
-     * Obtain details of a reservation
-     * @return Obtain details of a reservation
+     * Obtain the ending date of a reservation (LocalDate)
+     * @return End date of reservation (LocalDate)
      */
-    public HashMap<String, Object> getDetails() {
-        // Creating HashMap
-        HashMap<String, Object> result = new HashMap<String, Object>();
-
-        // Adding details
-        result.put("id", id);
-        result.put("start", start.toString());
-        result.put("end", end.toString());
+    public LocalDate getEnd() {
+        return end;
+    }
 
-        return result;
+    /**
+     * Obtain details of a reservation
+     * @return Snapshot of the reservation's id, start and end date (ReservationDetails)
+     */
+    public ReservationDetails getDetails() {
+        return new ReservationDetails(id, start, end);
     }
 
     /**
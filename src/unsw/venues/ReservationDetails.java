@@ -0,0 +1,59 @@
+package unsw.venues;
+
+import java.time.LocalDate;
+
+/**
+ * Snapshot of a reservation's details (id, start, end)
+ * @author Kevin Chu
+ */
+public class ReservationDetails {
+    /**
+     * Reservation's ID (String)
+     */
+    private final String id;
+    /**
+     * Start date of reservation (LocalDate)
+     */
+    private final LocalDate start;
+    /**
+     * End date of reservation (LocalDate)
+     */
+    private final LocalDate end;
+
+    /**
+     * Constructs ReservationDetails given an id, start date and end date
+     * @param id Identification of reservation (String)
+     * @param start Start date of reservation (LocalDate)
+     * @param end End date of reservation (LocalDate)
+     */
+    public ReservationDetails(String id, LocalDate start, LocalDate end) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Obtain the identification of the reservation
+     * @return ID of reservation (String)
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Obtain the starting date of the reservation
+     * @return Start date of reservation (LocalDate)
+     */
+    public LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * Obtain the ending date of the reservation
+     * @return End date of reservation (LocalDate)
+     */
+    public LocalDate getEnd() {
+        return end;
+    }
+
+}
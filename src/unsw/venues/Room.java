@@ -2,8 +2,8 @@ package unsw.venues;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Details about a room (name, size, reservations)
@@ -19,18 +19,31 @@ public class Room {
      */
     private String size;
     /**
-     * Reservations of the room (ArrayList<Reservation>)
+     * Reservations of the room sorted by starting date (ArrayList<Reservation>)
+     * Reservations of a room never overlap so they are also sorted by ending date
      */
     private ArrayList<Reservation> reservations;
+    /**
+     * Name of the room's venue (String)
+     */
+    private String venue;
+    /**
+     * Occupancy aggregates updated by the room's bookings (Occupancy)
+     */
+    private Occupancy occupancy;
 
     /**
-     * Constructs a Room given a name and a size
+     * Constructs a Room given a name, a size and its venue
      * @param name Room's name (String)
      * @param size Room's size (String - small, medium, large)
+     * @param venue Name of the room's venue (String)
+     * @param occupancy Occupancy aggregates updated by the room's bookings (Occupancy)
      */
-    public Room(String name, String size) {
+    public Room(String name, String size, String venue, Occupancy occupancy) {
         this.name = name;
         this.size = size;
+        this.venue = venue;
+        this.occupancy = occupancy;
         reservations = new ArrayList<Reservation>();
     }
 
@@ -71,17 +84,17 @@ public class Room {
     }
 
     /**
-     * Check if the room is available from start date to end date ignoring a reservation ID
-     * @param id Reservation ID to ignore (String)
+     * Check if the room is available from start date to end date ignoring a reservation
+     * @param reservation Reservation to ignore (Reservation)
      * @param start Start time of new booking (LocalDate)
      * @param end Start time of new booking (LocalDate)
      * @return Room if it can be booked, null if it is already booked
      */
-    public Room change(String id, LocalDate start, LocalDate end) {
+    public Room change(Reservation reservation, LocalDate start, LocalDate end) {
         // For all reservations
         for (Reservation r : reservations) {
             // Ignore reservation which is being replaced
-            if (!r.getId().equals(id)) {
+            if (r != reservation) {
                 // Checking if time slot is already booked
                 if (r.inReservation(start, end)) {
                     // Time slot is already taken
@@ -99,29 +112,69 @@ public class Room {
      * @param reservation Reservation object containing details of reservation
      */
     public void confirmBooking(Reservation reservation) {
-        reservations.add(reservation);
+        // Inserting reservation after all reservations starting before it
+        int index = 0;
+        int high = reservations.size();
+        while (index < high) {
+            int mid = (index + high) >>> 1;
+            if (reservations.get(mid).getStart().isBefore(reservation.getStart())) {
+                index = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        reservations.add(index, reservation);
+        occupancy.book(venue, size, reservation.getStart(), reservation.getEnd());
     }
 
     /**
-     * Obtain details about the Room (name) and its reservations (id, start, end) as a HashMap
-     * @return Room details (name and reservations) as a HashMap
+     * Obtain the reservations of the room which overlap a date range
+     * @param from Start date of range, null for no start (LocalDate)
+     * @param to End date of range, null for no end (LocalDate)
+     * @return View of overlapping reservations sorted by starting date (List<Reservation>)
      */
-    public HashMap<String, Object> getDetails() {
-        // Creating JSONObject
-        HashMap<String, Object> result = new HashMap<String, Object>();
+    public List<Reservation> getReservations(LocalDate from, LocalDate to) {
+        // Finding first reservation ending on or after from
+        int first = 0;
+        int high = reservations.size();
+        while (from != null && first < high) {
+            int mid = (first + high) >>> 1;
+            if (reservations.get(mid).getEnd().isBefore(from)) {
+                first = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
 
-        // Adding room details
-        result.put("room", name);
+        // Finding first reservation starting after to
+        int last = reservations.size();
+        int low = first;
+        while (to != null && low < last) {
+            int mid = (low + last) >>> 1;
+            if (reservations.get(mid).getStart().isAfter(to)) {
+                last = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
 
-        // Adding reservations of room sorted by starting date
-        reservations.sort(Comparator.comparing(r -> r.getStart()));
-        ArrayList<HashMap<String, Object>> resultReservations = new ArrayList<HashMap<String, Object>>();
-        for (Reservation r : reservations) {
+        return Collections.unmodifiableList(reservations.subList(first, last));
+    }
+
+    /**
+     * Obtain details about the Room (name) and its reservations (id, start, end)
+     * @param from Only include reservations ending on or after this date, null for all (LocalDate)
+     * @param to Only include reservations starting on or before this date, null for all (LocalDate)
+     * @return Snapshot of the room's name and reservations sorted by starting date (RoomDetails)
+     */
+    public RoomDetails getDetails(LocalDate from, LocalDate to) {
+        // Adding reservations of room, already sorted by starting date
+        ArrayList<ReservationDetails> resultReservations = new ArrayList<ReservationDetails>();
+        for (Reservation r : getReservations(from, to)) {
             resultReservations.add(r.getDetails());
         }
-        result.put("reservations", resultReservations);
 
-        return result;
+        return new RoomDetails(name, resultReservations);
     }
 
     /**
@@ -129,7 +182,9 @@ public class Room {
      * @param reservation Reservation filled with details
      */
     public void cancelBooking(Reservation reservation) {
-        reservations.remove(reservation);
+        if (reservations.remove(reservation)) {
+            occupancy.unbook(venue, size, reservation.getStart(), reservation.getEnd());
+        }
     }
 
 }
@@ -0,0 +1,46 @@
+package unsw.venues;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Snapshot of a room's details (name, reservations)
+ * @author Kevin Chu
+ */
+public class RoomDetails {
+    /**
+     * Room's name (String)
+     */
+    private final String name;
+    /**
+     * Reservations of the room sorted by starting date (List<ReservationDetails>)
+     */
+    private final List<ReservationDetails> reservations;
+
+    /**
+     * Constructs RoomDetails given a name and reservations
+     * @param name Room's name (String)
+     * @param reservations Reservations of the room sorted by starting date (List<ReservationDetails>)
+     */
+    public RoomDetails(String name, List<ReservationDetails> reservations) {
+        this.name = name;
+        this.reservations = Collections.unmodifiableList(reservations);
+    }
+
+    /**
+     * Obtain the name of the room
+     * @return Name of the room (String)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Obtain the reservations of the room
+     * @return Reservations sorted by starting date (List<ReservationDetails>)
+     */
+    public List<ReservationDetails> getReservations() {
+        return reservations;
+    }
+
+}
@@ -0,0 +1,26 @@
+package unsw.venues;
+
+/**
+ * Receives the rooms of a listing and their reservations one at a time, in order of definition
+ * Each room's reservations are visited between its startRoom and endRoom, sorted by starting date
+ * @author Kevin Chu
+ */
+public interface RoomVisitor {
+    /**
+     * Visits the start of a room
+     * @param name Room's name (String)
+     */
+    void startRoom(String name);
+
+    /**
+     * Visits a reservation of the current room
+     * @param reservation Snapshot of the reservation's id, start and end date (ReservationDetails)
+     */
+    void visitReservation(ReservationDetails reservation);
+
+    /**
+     * Visits the end of a room, after all of its reservations
+     * @param name Room's name (String)
+     */
+    void endRoom(String name);
+}
@@ -1,8 +1,10 @@
 package unsw.venues;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * Details about a venue (name, rooms)
@@ -17,13 +19,19 @@ public class Venue {
      * List of rooms a venue has (ArrayList<Room>)
      */
     private ArrayList<Room> rooms;
+    /**
+     * Occupancy aggregates updated by the venue's rooms (Occupancy)
+     */
+    private Occupancy occupancy;
 
     /**
      * Constructs Venue object with name
      * @param name Name of venue (String)
+     * @param occupancy Occupancy aggregates updated by the venue's rooms (Occupancy)
      */
-    public Venue(String name) {
+    public Venue(String name, Occupancy occupancy) {
         this.name = name;
+        this.occupancy = occupancy;
         rooms = new ArrayList<Room>();
     }
 
@@ -42,10 +50,11 @@ public class Venue {
      */
     public void addRoom(String name, String size) {
         // Creating new room
-        Room newRoom = new Room(name, size);
+        Room newRoom = new Room(name, size, this.name, occupancy);
 
         // Adding new room
         rooms.add(newRoom);
+        occupancy.addRoom(this.name, size);
     }
 
     /**
@@ -89,13 +98,13 @@ public class Venue {
 
     /**
      * Request a potential change of reservation
-     * @param id Identification of reservation (String)
+     * @param reservation Reservation being changed (Reservation)
      * @param start Start date of reservation (LocalDate)
      * @param end End date of reservation (LocalDate)
      * @param sizes Amount of rooms required for each size (HashMap(String, Integer))
      * @return New rooms if request can be filled, otherwise null
      */
-    public ArrayList<Room> change(String id, LocalDate start, LocalDate end, HashMap<String, Integer> sizes) {
+    public ArrayList<Room> change(Reservation reservation, LocalDate start, LocalDate end, HashMap<String, Integer> sizes) {
         // Creating result to store rooms which can be booked
         ArrayList<Room> result = new ArrayList<Room>();
 
@@ -107,7 +116,7 @@ public class Venue {
             // Checking if the rooms for a size is already filled
             if (sizesClone.get(r.getSize()) > 0) {
                 // More rooms of the size need to be booked, attempt to book if possible
-                Room room = r.change(id, start, end);
+                Room room = r.change(reservation, start, end);
 
                 // Check if the room can be booked for the time frame
                 if (room != null) {
@@ -129,21 +138,38 @@ public class Venue {
 
     /**
      * Obtain's a list of the venue's room details (name and reservations)
-     * @return Returns details of all room details at a venue (ArrayList of HashMap(String, Object))
+     * @param from Only include reservations ending on or after this date, null for all (LocalDate)
+     * @param to Only include reservations starting on or before this date, null for all (LocalDate)
+     * @param offset Amount of rooms to skip (int)
+     * @param limit Maximum amount of rooms to include (int)
+     * @return Returns details of the rooms at a venue (ArrayList<RoomDetails>)
      */
-    public ArrayList<HashMap<String, Object>> getRoomDetails() {
+    public ArrayList<RoomDetails> getRoomDetails(LocalDate from, LocalDate to, int offset, int limit) {
         // Creating Result
-        ArrayList<HashMap<String, Object>> result = new ArrayList<HashMap<String, Object>>();
+        ArrayList<RoomDetails> result = new ArrayList<RoomDetails>();
 
-        // For all rooms
-        for (Room r : rooms) {
-            // Add room's JSON
-            result.add(r.getDetails());
+        // For all rooms in the page
+        for (Room r : getRooms(offset, limit)) {
+            // Add room's details
+            result.add(r.getDetails(from, to));
         }
 
         return result;
     }
 
+    /**
+     * Obtain a page of the venue's rooms in order of definition
+     * @param offset Amount of rooms to skip (int)
+     * @param limit Maximum amount of rooms to include (int)
+     * @return View of the rooms in the page (List<Room>)
+     */
+    public List<Room> getRooms(int offset, int limit) {
+        int first = Math.min(Math.max(offset, 0), rooms.size());
+        int last = (int) Math.min((long) first + Math.max(limit, 0), rooms.size());
+
+        return Collections.unmodifiableList(rooms.subList(first, last));
+    }
+
     /**
      * Checks if a request is satisfied based on the leftover room requests
      * @param sizes
@@ -0,0 +1,285 @@
+package unsw.venues;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Non-blocking API to the hiring system for use from any amount of threads
+ * Commands are queued and executed in order of submission by a single engine thread, which takes
+ * every queued command as one batch, so the hiring system itself is never accessed concurrently.
+ * Futures are completed on the engine thread, so dependent stages which block should use the
+ * async variants of CompletableFuture's methods.
+ * @author Kevin Chu
+ */
+public class VenueHireEngine implements AutoCloseable {
+    /**
+     * Hiring system only accessed by the engine thread (VenueHireSystem)
+     */
+    private final VenueHireSystem system;
+    /**
+     * Commands waiting for the engine thread (LinkedBlockingQueue<Task<?>>)
+     */
+    private final LinkedBlockingQueue<Task<?>> queue;
+    /**
+     * Thread executing commands (Thread)
+     */
+    private final Thread engineThread;
+    /**
+     * Whether the engine has stopped accepting commands, only set while holding the queue's lock
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructs and starts an engine over a new hiring system
+     */
+    public VenueHireEngine() {
+        system = new VenueHireSystem();
+        queue = new LinkedBlockingQueue<Task<?>>();
+        engineThread = new Thread(this::run, "venue-hire-engine");
+        engineThread.setDaemon(true);
+        engineThread.start();
+    }
+
+    /**
+     * Adds a new room to the system
+     * @param venue New or current name of venue (String)
+     * @param room New room's name (String)
+     * @param size New room's size (String - small, medium, large)
+     * @return Completed once the room has been added (CompletableFuture<Void>)
+     */
+    public CompletableFuture<Void> addRoom(String venue, String room, String size) {
+        return submit(s -> {
+            s.addRoom(venue, room, size);
+            return null;
+        });
+    }
+
+    /**
+     * Requests a new reservation
+     * @param id Identification of new reservation (String)
+     * @param start Start date of reservation (LocalDate)
+     * @param end End date of reservation (LocalDate)
+     * @param small Amount of small rooms requested (int)
+     * @param medium Amount of medium rooms requested (int)
+     * @param large Amount of large rooms requested (int)
+     * @return Request status and if successful, venue and room names (CompletableFuture<BookingResult>)
+     */
+    public CompletableFuture<BookingResult> request(String id, LocalDate start, LocalDate end,
+            int small, int medium, int large) {
+        return submit(s -> s.request(id, start, end, small, medium, large));
+    }
+
+    /**
+     * Changes an existing reservation
+     * @param id Identification of existing reservation (String)
+     * @param start Start date of reservation (LocalDate)
+     * @param end End date of reservation (LocalDate)
+     * @param small Amount of small rooms requested (int)
+     * @param medium Amount of medium rooms requested (int)
+     * @param large Amount of large rooms requested (int)
+     * @return Change status and if successful, venue and room names (CompletableFuture<BookingResult>)
+     */
+    public CompletableFuture<BookingResult> change(String id, LocalDate start, LocalDate end,
+            int small, int medium, int large) {
+        return submit(s -> s.change(id, start, end, small, medium, large));
+    }
+
+    /**
+     * Cancels an existing reservation
+     * @param id Identification of reservation (String)
+     * @return Completed once the reservation has been cancelled (CompletableFuture<Void>)
+     */
+    public CompletableFuture<Void> cancel(String id) {
+        return submit(s -> {
+            s.cancel(id);
+            return null;
+        });
+    }
+
+    /**
+     * Lists rooms and reservations of a venue
+     * @param venue Name of venue (String)
+     * @return All rooms in the venue and their reservations (CompletableFuture<List<RoomDetails>>)
+     */
+    public CompletableFuture<List<RoomDetails>> list(String venue) {
+        return submit(s -> s.list(venue));
+    }
+
+    /**
+     * Lists a page of rooms of a venue and their reservations overlapping a date range
+     * @param venue Name of venue (String)
+     * @param from Only include reservations ending on or after this date, null for all (LocalDate)
+     * @param to Only include reservations starting on or before this date, null for all (LocalDate)
+     * @param offset Amount of rooms to skip (int)
+     * @param limit Maximum amount of rooms to include (int)
+     * @return Rooms in the page and their reservations (CompletableFuture<List<RoomDetails>>)
+     */
+    public CompletableFuture<List<RoomDetails>> list(String venue, LocalDate from, LocalDate to,
+            int offset, int limit) {
+        return submit(s -> s.list(venue, from, to, offset, limit));
+    }
+
+    /**
+     * Visits a page of rooms of a venue and their reservations overlapping a date range, one reservation at a time
+     * The visitor is called on the engine thread, so no other command of this engine is executed until
+     * every room has been visited. Slow visitors, such as blocking writes of a large listing, delay all
+     * other callers, and visitors must not wait for other commands of this engine.
+     * @param venue Name of venue (String)
+     * @param from Only include reservations ending on or after this date, null for all (LocalDate)
+     * @param to Only include reservations starting on or before this date, null for all (LocalDate)
+     * @param offset Amount of rooms to skip (int)
+     * @param limit Maximum amount of rooms to include (int)
+     * @param visitor Visitor receiving each room in order of definition and its reservations (RoomVisitor)
+     * @return Completed once every room has been visited (CompletableFuture<Void>)
+     */
+    public CompletableFuture<Void> forEachRoom(String venue, LocalDate from, LocalDate to, int offset, int limit,
+            RoomVisitor visitor) {
+        return submit(s -> {
+            s.forEachRoom(venue, from, to, offset, limit, visitor);
+            return null;
+        });
+    }
+
+    /**
+     * Reports occupancy of rooms from start date to end date (inclusive)
+     * @param venue Name of venue, null for all venues (String)
+     * @param size Size of rooms, null for all sizes (String)
+     * @param start Start date of report (LocalDate)
+     * @param end End date of report (LocalDate)
+     * @param period Length of periods to split the report into, null to not split (ReportPeriod)
+     * @return Occupancy of the range and its periods (CompletableFuture<OccupancyReport>)
+     */
+    public CompletableFuture<OccupancyReport> report(String venue, String size, LocalDate start, LocalDate end,
+            ReportPeriod period) {
+        return submit(s -> s.report(venue, size, start, end, period));
+    }
+
+    /**
+     * Queues an operation on the hiring system for the engine thread
+     * @param operation Operation to execute on the hiring system (Function<VenueHireSystem, T>)
+     * @return Result of the operation (CompletableFuture<T>)
+     */
+    private <T> CompletableFuture<T> submit(Function<VenueHireSystem, T> operation) {
+        Task<T> task = new Task<T>(operation);
+
+        // Locking so no command is queued after the engine thread has stopped
+        synchronized (queue) {
+            if (closed) {
+                task.fail(new IllegalStateException("Engine is closed"));
+            } else {
+                queue.add(task);
+            }
+        }
+
+        return task.result;
+    }
+
+    /**
+     * Executes batches of queued commands until the engine is closed and the queue is empty
+     */
+    private void run() {
+        ArrayDeque<Task<?>> batch = new ArrayDeque<Task<?>>();
+
+        try {
+            while (!closed || !queue.isEmpty()) {
+                try {
+                    // Waiting for a command then taking every other queued command
+                    batch.add(queue.take());
+                    queue.drainTo(batch);
+                } catch (InterruptedException e) {
+                    // Woken by close, checking if there are commands left
+                    continue;
+                }
+
+                Task<?> task;
+                while ((task = batch.poll()) != null) {
+                    task.run();
+                }
+            }
+        } finally {
+            // Failing commands which will never be executed if the thread stops unexpectedly
+            synchronized (queue) {
+                closed = true;
+            }
+            IllegalStateException stopped = new IllegalStateException("Engine has stopped");
+            Task<?> task;
+            while ((task = batch.poll()) != null) {
+                task.fail(stopped);
+            }
+            while ((task = queue.poll()) != null) {
+                task.fail(stopped);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting commands and waits for queued commands to be executed
+     * When called from the engine thread, such as from a dependent stage, queued commands are still
+     * executed but the call returns without waiting for them
+     */
+    @Override
+    public void close() {
+        synchronized (queue) {
+            closed = true;
+        }
+
+        // The engine thread stops by itself once the queue is empty, it cannot wait for itself
+        if (Thread.currentThread() == engineThread) {
+            return;
+        }
+        engineThread.interrupt();
+
+        try {
+            engineThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Operation on the hiring system and the future completed with its result
+     */
+    private class Task<T> {
+        /**
+         * Operation to execute on the hiring system (Function<VenueHireSystem, T>)
+         */
+        private final Function<VenueHireSystem, T> operation;
+        /**
+         * Result of the operation (CompletableFuture<T>)
+         */
+        private final CompletableFuture<T> result;
+
+        /**
+         * Constructs a Task for an operation
+         * @param operation Operation to execute on the hiring system (Function<VenueHireSystem, T>)
+         */
+        private Task(Function<VenueHireSystem, T> operation) {
+            this.operation = operation;
+            result = new CompletableFuture<T>();
+        }
+
+        /**
+         * Executes the operation, completing the result with anything it throws so the engine thread survives
+         */
+        private void run() {
+            try {
+                result.complete(operation.apply(system));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Completes the result without executing the operation
+         * @param error Reason the operation was not executed (Throwable)
+         */
+        private void fail(Throwable error) {
+            result.completeExceptionally(error);
+        }
+    }
+
+}
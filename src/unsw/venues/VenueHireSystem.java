@@ -2,14 +2,14 @@ package unsw.venues;
 
 import java.time.LocalDate;
 import java.util.Scanner;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.util.List;
 
 /**
  * Venue Hiring System for multiple venues and multiple rooms
+ * Not thread-safe, VenueHireEngine provides concurrent access
  * @author Kevin Chu
  */
 public class VenueHireSystem {
@@ -18,99 +18,28 @@ public class VenueHireSystem {
      */
     private ArrayList<Venue> venues;
     /**
-     * Reservations placed on the hiring system
+     * Venues of the hiring system referenced by name (HashMap<String, Venue>)
+     */
+    private HashMap<String, Venue> venuesByName;
+    /**
+     * Reservations placed on the hiring system referenced by identification, oldest first
+     * Identifications may be reused, each later command on an identification affects its oldest
+     * reservation (HashMap<String, ArrayDeque<Reservation>>)
+     */
+    private HashMap<String, ArrayDeque<Reservation>> reservations;
+    /**
+     * Booked room days aggregated per venue and size (Occupancy)
      */
-    private ArrayList<Reservation> reservations;
+    private Occupancy occupancy;
 
     /**
      * Constructs the hiring system
      */
     public VenueHireSystem() {
         venues = new ArrayList<Venue>();
-        reservations = new ArrayList<Reservation>();
-    }
-
-    /**
-     * Endpoint used to modify venue system
-     * @param json Command to be executed (JSONObject)
-     */
-    private void processCommand(JSONObject json) {
-        // For command given by user
-        switch (json.getString("command")) {
-            // If request is to create a new room
-            case "room": {
-                // Obtaining input
-                String venue = json.getString("venue");
-                String room = json.getString("room");
-                String size = json.getString("size");
-
-                // Executing command
-                addRoom(venue, room, size);
-                break;
-            }
-            // If request is to book a room
-            case "request": {
-                // Obtaining input
-                String id = json.getString("id");
-                LocalDate start = LocalDate.parse(json.getString("start"));
-                LocalDate end = LocalDate.parse(json.getString("end"));
-                int small = json.getInt("small");
-                int medium = json.getInt("medium");
-                int large = json.getInt("large");
-
-                // Standardise Sizes
-                HashMap<String, Integer> sizes = standardiseSizeAmount(small, medium, large);
-
-                // Executing Command
-                JSONObject result = request(id, start, end, sizes);
-
-                // Returning result
-                System.out.println(result.toString());
-                break;
-            }
-            // If request is to change a reservation
-            case "change": {
-                // Obtaining input
-                String id = json.getString("id");
-                LocalDate start = LocalDate.parse(json.getString("start"));
-                LocalDate end = LocalDate.parse(json.getString("end"));
-                int small = json.getInt("small");
-                int medium = json.getInt("medium");
-                int large = json.getInt("large");
-
-                // Standardise Sizes
-                HashMap<String, Integer> sizes = standardiseSizeAmount(small, medium, large);
-
-                // Executing command
-                JSONObject result = change(id, start, end, sizes);
-
-                // Returning result
-                System.out.println(result.toString());
-                break;
-            }
-            // If the request is to cancel a reservation
-            case "cancel": {
-                // Obtaining input
-                String id = json.getString("id");
-
-                // Executing command
-                cancel(id);
-
-                break;
-            }
-            // If the request is to list details about a venue's room and reservations
-            case "list": {
-                // Obtaining input
-                String venue = json.getString("venue");
-
-                // Executing command
-                JSONArray result = list(venue);
-
-                // Returning result
-                System.out.println(result.toString());
-                break;
-            }
-        }
+        venuesByName = new HashMap<String, Venue>();
+        reservations = new HashMap<String, ArrayDeque<Reservation>>();
+        occupancy = new Occupancy();
     }
 
     /**
@@ -119,7 +48,7 @@ public class VenueHireSystem {
      * @param room New room's name (String)
      * @param size New room's size (String - small, medium, large)
      */
-    private void addRoom(String venueName, String room, String size) {
+    public void addRoom(String venueName, String room, String size) {
         // Getting venue if already exists
         Venue venue = getVenue(venueName);
 
@@ -137,12 +66,17 @@ public class VenueHireSystem {
      * @param id Identification of new reservation (String)
      * @param start Start date of reservation (LocalDate)
      * @param end End date of reservation (LocalDate)
-     * @param sizes Amount of room sizes requested
-     * @return Request status and if successful, venue and room details (JSONObject)
+     * @param small Amount of small rooms requested (int)
+     * @param medium Amount of medium rooms requested (int)
+     * @param large Amount of large rooms requested (int)
+     * @return Request status and if successful, venue and room names (BookingResult)
+     * @throws IllegalArgumentException If the end date is before the start date
      */
-    private JSONObject request(String id, LocalDate start, LocalDate end, HashMap<String, Integer> sizes) {
-        // Creating JSONObject
-        JSONObject result = new JSONObject();
+    public BookingResult request(String id, LocalDate start, LocalDate end, int small, int medium, int large) {
+        checkRange(start, end);
+
+        // Standardising sizes
+        HashMap<String, Integer> sizes = standardiseSizeAmount(small, medium, large);
 
         // For all venues
         for (Venue v : venues) {
@@ -153,75 +87,72 @@ public class VenueHireSystem {
             if (rooms != null) {
                 // Creating reservation
                 Reservation newReservation = new Reservation(id, start, end, rooms);
-                reservations.add(newReservation);
-
-                // Adding venue and status to JSONObject
-                result.put("venue", v.getName());
-                result.put("status", "success");
 
-                // Obtaining room information for JSONObject and confirming booking
-                JSONArray roomNames = new JSONArray();
+                // Obtaining room names and confirming booking
+                ArrayList<String> roomNames = new ArrayList<String>();
                 for (Room r : rooms) {
-                    roomNames.put(r.getName());
+                    roomNames.add(r.getName());
                     r.confirmBooking(newReservation);
                 }
-                result.put("rooms", roomNames);
+                reservations.computeIfAbsent(id, k -> new ArrayDeque<Reservation>()).add(newReservation);
 
-                return result;
+                return new BookingResult(v.getName(), roomNames);
             }
         }
 
         // Request could not be granted
-        result.put("status", "rejected");
-        return result;
+        return BookingResult.rejected();
     }
 
     /**
      * Change a booking to the venue
-     * @param id Identification of new reservation (String)
+     * @param id Identification of existing reservation (String)
      * @param start Start date of reservation (LocalDate)
      * @param end End date of reservation (LocalDate)
-     * @param sizes Requested sizes and amount of sizes
-     * @return Request status and if successful, venue and room details (JSONObject)
+     * @param small Amount of small rooms requested (int)
+     * @param medium Amount of medium rooms requested (int)
+     * @param large Amount of large rooms requested (int)
+     * @return Request status and if successful, venue and room names (BookingResult)
+     * @throws IllegalArgumentException If the end date is before the start date
      */
-    private JSONObject change(String id, LocalDate start, LocalDate end, HashMap<String, Integer> sizes) {
-        // Creating JSONObject
-        JSONObject result = new JSONObject();
+    public BookingResult change(String id, LocalDate start, LocalDate end, int small, int medium, int large) {
+        checkRange(start, end);
+
+        // Standardising sizes
+        HashMap<String, Integer> sizes = standardiseSizeAmount(small, medium, large);
+
+        // Obtaining reservation being changed
+        Reservation previousReservation = getReservation(id);
 
         // For all venues
         for (Venue v : venues) {
             // Check if the change request can be fulfilled
-            ArrayList<Room> rooms = v.change(id, start, end, sizes);
+            ArrayList<Room> rooms = v.change(previousReservation, start, end, sizes);
 
             // If a booking can be made
             if (rooms != null) {
-                // Creating reservation
-                Reservation previousReservation = getReservation(id);
+                // Changing reservation
                 previousReservation.change(start, end, rooms);
 
-                // Obtaining rooms, venue and status for return JSONObject
-                JSONArray roomNames = new JSONArray();
+                // Obtaining room names
+                ArrayList<String> roomNames = new ArrayList<String>();
                 for (Room r : rooms) {
-                    roomNames.put(r.getName());
+                    roomNames.add(r.getName());
                 }
-                result.put("rooms", roomNames);
-                result.put("venue", v.getName());
-                result.put("status", "success");
 
-                return result;
+                return new BookingResult(v.getName(), roomNames);
             }
         }
 
         // Request could not be fulfiled
-        result.put("status", "rejected");
-        return result;
+        return BookingResult.rejected();
     }
 
     /**
      * Cancel a reservation
      * @param id Identification of reservation
      */
-    private void cancel(String id) {
+    public void cancel(String id) {
         // Obtaining reservation
         Reservation reservation = getReservation(id);
 
@@ -229,22 +160,101 @@ public class VenueHireSystem {
         reservation.removeRooms();
 
         // Removing reservation from self
-        reservations.remove(reservation);
+        ArrayDeque<Reservation> sameId = reservations.get(id);
+        sameId.remove();
+        if (sameId.isEmpty()) {
+            reservations.remove(id);
+        }
     }
 
     /**
      * List rooms and reservations of a venue
      * @param venueName Name of venue for listing (String)
-     * @return List of all rooms in a venue and the room's respective reservations (JSONArray)
+     * @return All rooms in a venue and the room's respective reservations (List<RoomDetails>)
      */
-    private JSONArray list(String venueName) {
+    public List<RoomDetails> list(String venueName) {
+        return list(venueName, null, null, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * List a page of rooms of a venue and their reservations overlapping a date range
+     * @param venueName Name of venue for listing (String)
+     * @param from Only include reservations ending on or after this date, null for all (LocalDate)
+     * @param to Only include reservations starting on or before this date, null for all (LocalDate)
+     * @param offset Amount of rooms to skip (int)
+     * @param limit Maximum amount of rooms to include (int)
+     * @return Rooms in the page and the room's respective reservations (List<RoomDetails>)
+     * @throws IllegalArgumentException If the venue does not exist or the end date is before the start date
+     */
+    public List<RoomDetails> list(String venueName, LocalDate from, LocalDate to, int offset, int limit) {
         // Obtaining venue
-        Venue venue = getVenue(venueName);
+        Venue venue = getListedVenue(venueName, from, to);
 
-        // Obtaining venue's JSONArray
-        JSONArray result = new JSONArray(venue.getRoomDetails());
+        return venue.getRoomDetails(from, to, offset, limit);
+    }
 
-        return result;
+    /**
+     * Visits a page of rooms of a venue in order of definition, with their reservations overlapping a date range
+     * Reservations are read from each room as they are visited and only one reservation's details exist at a time,
+     * so memory use depends on neither the size of the venue nor the amount of reservations of a room
+     * @param venueName Name of venue for listing (String)
+     * @param from Only include reservations ending on or after this date, null for all (LocalDate)
+     * @param to Only include reservations starting on or before this date, null for all (LocalDate)
+     * @param offset Amount of rooms to skip (int)
+     * @param limit Maximum amount of rooms to include (int)
+     * @param visitor Visitor receiving each room and its reservations (RoomVisitor)
+     * @throws IllegalArgumentException If the venue does not exist or the end date is before the start date,
+     * before any room is visited
+     */
+    public void forEachRoom(String venueName, LocalDate from, LocalDate to, int offset, int limit,
+            RoomVisitor visitor) {
+        // Obtaining venue
+        Venue venue = getListedVenue(venueName, from, to);
+
+        // For all rooms in the page
+        for (Room r : venue.getRooms(offset, limit)) {
+            visitor.startRoom(r.getName());
+            for (Reservation reservation : r.getReservations(from, to)) {
+                visitor.visitReservation(reservation.getDetails());
+            }
+            visitor.endRoom(r.getName());
+        }
+    }
+
+    /**
+     * Report occupancy of rooms from start date to end date (inclusive)
+     * @param venueName Name of venue, null for all venues (String)
+     * @param size Size of rooms, null for all sizes (String)
+     * @param start Start date of report (LocalDate)
+     * @param end End date of report (LocalDate)
+     * @param period Length of periods to split the report into, null to not split (ReportPeriod)
+     * @return Booked room days, available room days and occupancy rate, with those of each period if requested (OccupancyReport)
+     * @throws IllegalArgumentException If the end date is before the start date
+     */
+    public OccupancyReport report(String venueName, String size, LocalDate start, LocalDate end, ReportPeriod period) {
+        checkRange(start, end);
+
+        // Splitting range into periods, the last period ending at end
+        ArrayList<OccupancyReport> periods = null;
+        if (period != null) {
+            periods = new ArrayList<OccupancyReport>();
+            LocalDate d = start;
+            while (true) {
+                boolean last = end.toEpochDay() - d.toEpochDay() < period.getDays();
+                LocalDate periodEnd = last ? end : d.plusDays(period.getDays() - 1);
+                periods.add(report(venueName, size, d, periodEnd, null));
+                if (last) {
+                    break;
+                }
+                d = periodEnd.plusDays(1);
+            }
+        }
+
+        // Obtaining booked and available room days
+        long booked = occupancy.getBooked(venueName, size, start, end);
+        long available = occupancy.getRooms(venueName, size) * (end.toEpochDay() - start.toEpochDay() + 1);
+
+        return new OccupancyReport(start, end, booked, available, periods);
     }
 
     /**
@@ -253,17 +263,8 @@ public class VenueHireSystem {
      * @return Venue object with name venueName
      */
     public Venue getVenue(String venueName) {
-        // For all venues
-        for (Venue v : venues) {
-            // Checking if the venue has venueName
-            if (v.getName().equals(venueName)) {
-                // Found venue
-                return v;
-            }
-        }
-        
-        // Could not find venue with venueName
-        return null;
+        // Venue with venueName, null if it could not be found
+        return venuesByName.get(venueName);
     }
 
     /**
@@ -273,10 +274,11 @@ public class VenueHireSystem {
      */
     public Venue addVenue(String venue) {
         // Creating new venue
-        Venue result = new Venue(venue);
+        Venue result = new Venue(venue, occupancy);
 
         // Adding new venue to system
         venues.add(result);
+        venuesByName.put(venue, result);
 
         return result;
     }
@@ -284,20 +286,45 @@ public class VenueHireSystem {
     /**
      * Obtain a reservation given its identification
      * @param id Identification of reservation
-     * @return Reservation with identification id (Reservation)
+     * @return Oldest reservation with identification id (Reservation)
      */
     public Reservation getReservation(String id) {
-        // For all reservations
-        for (Reservation r : reservations) {
-            // Checking if identification matches
-            if (r.getId().equals(id)) {
-                // Found reservation
-                return r;
-            }
+        // Oldest reservation with identification id, null if it could not be found
+        ArrayDeque<Reservation> sameId = reservations.get(id);
+        return sameId == null ? null : sameId.peek();
+    }
+
+    /**
+     * Obtain the venue of a listing after checking its date range
+     * @param venueName Name of venue for listing (String)
+     * @param from Start date of range, null for no start (LocalDate)
+     * @param to End date of range, null for no end (LocalDate)
+     * @return Venue with name venueName (Venue)
+     * @throws IllegalArgumentException If the venue does not exist or the end date is before the start date
+     */
+    private Venue getListedVenue(String venueName, LocalDate from, LocalDate to) {
+        if (from != null && to != null) {
+            checkRange(from, to);
+        }
+
+        Venue venue = getVenue(venueName);
+        if (venue == null) {
+            throw new IllegalArgumentException("Venue " + venueName + " does not exist");
         }
 
-        // Reservation could not be found
-        return null;
+        return venue;
+    }
+
+    /**
+     * Checks a date range before it is used to modify or query the system
+     * @param start Start date of range (LocalDate)
+     * @param end End date of range (LocalDate)
+     * @throws IllegalArgumentException If the end date is before the start date
+     */
+    private void checkRange(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End date " + end + " is before start date " + start);
+        }
     }
 
     /**
@@ -319,22 +346,20 @@ public class VenueHireSystem {
     }
 
     /**
-     * Constantly reads from STDIN for JSON commands to the hiring system
+     * Constantly reads from STDIN for JSON commands, executing them through a VenueHireEngine
      * @param args Initial JSON command
      */
     public static void main(String[] args) {
-        VenueHireSystem system = new VenueHireSystem();
+        try (VenueHireEngine engine = new VenueHireEngine(); Scanner sc = new Scanner(System.in)) {
+            JsonCli cli = new JsonCli(engine, System.out);
 
-        Scanner sc = new Scanner(System.in);
-
-        while (sc.hasNextLine()) {
-            String line = sc.nextLine();
-            if (!line.trim().equals("")) {
-                JSONObject command = new JSONObject(line);
-                system.processCommand(command);
+            while (sc.hasNextLine()) {
+                String line = sc.nextLine();
+                if (!line.trim().equals("")) {
+                    cli.execute(line);
+                }
             }
         }
-        sc.close();
     }
 
 }